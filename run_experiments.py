@@ -25,6 +25,12 @@ MCTS_ARGS = ["-t", str(TIMEOUT_S), "-n", "400", "-d", "80", "-p", "250", "-s", "
 # Paramètres A*
 ASTAR_ARGS = ["-t", str(TIMEOUT_S), "-e", "FAST_FORWARD", "-w", "1.2"]
 
+# Dossier des checkpoints A* (vide => désactivé). Un run relancé reprend
+# la recherche là où le précédent s'est arrêté (--resume).
+CHECKPOINT_DIR = os.environ.get("CHECKPOINT_DIR", "")
+# Marge laissée au planificateur pour écrire son dernier checkpoint
+CHECKPOINT_GRACE_S = 60
+
 RE_PLAN_STEP = re.compile(r"^\s*\d+:\s+\(")
 RE_MCTS_SUCC = re.compile(r"plan found \((\d+) steps\)", re.IGNORECASE)
 
@@ -35,12 +41,12 @@ def list_first_n_problems(domain_dir: Path, n: int):
     problems = sorted(domain_dir.glob("p*.pddl"))
     return problems[:n]
 
-def run_planner(planner_class: str, domain_file: Path, problem_file: Path, extra_args):
+def run_planner(planner_class: str, domain_file: Path, problem_file: Path, extra_args, grace_s=0):
     cmd = ["java", "-cp", JAVA_CP, planner_class, str(domain_file), str(problem_file)] + extra_args
 
     t0 = time.time()
     try:
-        p = subprocess.run(cmd, capture_output=True, text=True, timeout=TIMEOUT_S)
+        p = subprocess.run(cmd, capture_output=True, text=True, timeout=TIMEOUT_S + grace_s)
         timed_out = False
     except subprocess.TimeoutExpired as e:
         p = None
@@ -121,7 +127,13 @@ def main():
             results.append([d, pb.name, "MCTS", mcts["ok"], f"{mcts['time_s']:.4f}", mcts["plan_len"]])
 
             # A*
-            astar = run_planner(ASTAR_CLASS, domain_file, pb, ASTAR_ARGS)
+            if CHECKPOINT_DIR:
+                Path(CHECKPOINT_DIR).mkdir(parents=True, exist_ok=True)
+                ckpt = Path(CHECKPOINT_DIR) / f"{d}__{pb.stem}.ckpt"
+                astar_args = ASTAR_ARGS + ["--checkpoint", str(ckpt), "--resume"]
+                astar = run_planner(ASTAR_CLASS, domain_file, pb, astar_args, CHECKPOINT_GRACE_S)
+            else:
+                astar = run_planner(ASTAR_CLASS, domain_file, pb, ASTAR_ARGS)
             save_log(d, pb.stem, "ASTAR", f"$ {astar['cmd']}\n\n{astar['output']}")
             results.append([d, pb.name, "A*", astar["ok"], f"{astar['time_s']:.4f}", astar["plan_len"]])
 
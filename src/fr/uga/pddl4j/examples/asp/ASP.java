@@ -14,16 +14,23 @@ import fr.uga.pddl4j.problem.Problem;
 import fr.uga.pddl4j.problem.State;
 import fr.uga.pddl4j.problem.operator.Action;
 import fr.uga.pddl4j.problem.operator.ConditionalEffect;
+import fr.uga.pddl4j.util.BitVector;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import picocli.CommandLine;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
 
 /**
@@ -32,7 +39,7 @@ import java.util.Set;
 @CommandLine.Command(
     name = "ASP",
     version = "ASP 1.0",
-    description = "Solves a specified planning problem using A* search strategy.",
+    description = "Solves a specified planning problem using A*, IDA* or enforced hill-climbing search strategy.",
     sortOptions = false,
     mixinStandardHelpOptions = true,
     headerHeading = "Usage:%n",
@@ -48,6 +55,39 @@ public class ASP extends AbstractPlanner {
      */
     private static final Logger LOGGER = LogManager.getLogger(ASP.class.getName());
 
+    /**
+     * Search strategies of the planner.
+     */
+    public enum Search {
+        /**
+         * Weighted A* search.
+         */
+        ASTAR,
+        /**
+         * Enforced hill-climbing, falling back to A* when it fails.
+         */
+        EHC,
+        /**
+         * Iterative-deepening A* with a bounded transposition table.
+         */
+        IDASTAR
+    }
+
+    /**
+     * Search strategy.
+     */
+    private Search search;
+
+    /**
+     * Whether enforced hill-climbing only expands helpful actions.
+     */
+    private boolean helpfulActions;
+
+    /**
+     * Number of slots of the IDA* transposition table.
+     */
+    private int tableSize;
+
     /**
      * Heuristic weight.
      */
@@ -58,6 +98,27 @@ public class ASP extends AbstractPlanner {
      */
     private StateHeuristic.Name heuristic;
 
+    /**
+     * File where the search is periodically saved (null if disabled).
+     */
+    private File checkpointFile;
+
+    /**
+     * Delay in seconds between two snapshots of the search.
+     */
+    private int checkpointInterval;
+
+    /**
+     * Whether the search restarts from the checkpoint file.
+     */
+    private boolean resume;
+
+    /**
+     * Command-line specification, used to report invalid combinations of options.
+     */
+    @CommandLine.Spec
+    private CommandLine.Model.CommandSpec spec;
+
     // ============================================================
     //  Command-line options for heuristic and weight
     // ============================================================
@@ -85,6 +146,68 @@ public class ASP extends AbstractPlanner {
         this.heuristic = heuristic;
     }
 
+    @CommandLine.Option(
+        names = {"-s", "--search"},
+        defaultValue = "ASTAR",
+        description = "Set the search strategy : ASTAR, EHC, IDASTAR (preset: ASTAR)"
+    )
+    public void setSearch(final Search search) {
+        this.search = search;
+    }
+
+    @CommandLine.Option(
+        names = {"-a", "--helpful-actions"},
+        description = "Only expand helpful actions during enforced hill-climbing."
+    )
+    public void setHelpfulActions(final boolean helpfulActions) {
+        this.helpfulActions = helpfulActions;
+    }
+
+    @CommandLine.Option(
+        names = {"-b", "--table-size"},
+        defaultValue = "262144",
+        paramLabel = "<slots>",
+        description = "Set the number of slots of the IDA* transposition table, "
+            + "at most 2^30 (preset 262144)."
+    )
+    public void setTableSize(final int size) {
+        if (size <= 0 || size > 1 << 30) {
+            throw new IllegalArgumentException("Table size must be in ]0, 2^30]");
+        }
+        this.tableSize = size;
+    }
+
+    @CommandLine.Option(
+        names = {"-c", "--checkpoint"},
+        paramLabel = "<file>",
+        description = "Periodically save the search to this file, ASTAR only (preset: disabled)."
+    )
+    public void setCheckpointFile(final File file) {
+        this.checkpointFile = file;
+    }
+
+    @CommandLine.Option(
+        names = {"-i", "--checkpoint-interval"},
+        defaultValue = "60",
+        paramLabel = "<seconds>",
+        description = "Set the delay between two snapshots of the search (preset 60)."
+    )
+    public void setCheckpointInterval(final int interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval <= 0");
+        }
+        this.checkpointInterval = interval;
+    }
+
+    @CommandLine.Option(
+        names = {"-r", "--resume"},
+        description = "Restart the search from the checkpoint file if it exists, ASTAR only. "
+            + "Stored heuristic values are reused, only the weight may change."
+    )
+    public void setResume(final boolean resume) {
+        this.resume = resume;
+    }
+
     public final StateHeuristic.Name getHeuristic() {
         return this.heuristic;
     }
@@ -93,6 +216,30 @@ public class ASP extends AbstractPlanner {
         return this.heuristicWeight;
     }
 
+    public final Search getSearch() {
+        return this.search;
+    }
+
+    public final boolean isHelpfulActions() {
+        return this.helpfulActions;
+    }
+
+    public final int getTableSize() {
+        return this.tableSize;
+    }
+
+    public final File getCheckpointFile() {
+        return this.checkpointFile;
+    }
+
+    public final int getCheckpointInterval() {
+        return this.checkpointInterval;
+    }
+
+    public final boolean isResume() {
+        return this.resume;
+    }
+
     // ============================================================
     //  Mandatory overrides from AbstractPlanner
     // ============================================================
@@ -105,11 +252,17 @@ public class ASP extends AbstractPlanner {
     }
 
     /**
-     * Entry point: here we call our own A* implementation.
+     * Entry point: here we call our own search implementation.
      */
     @Override
     public Plan solve(final Problem problem) {
         try {
+            if (this.getSearch() == Search.EHC) {
+                return this.enforcedHillClimbing(problem);
+            }
+            if (this.getSearch() == Search.IDASTAR) {
+                return this.idastar(problem);
+            }
             return this.astar(problem);
         } catch (ProblemNotSupportedException e) {
             LOGGER.error("Problem not supported: {}", e.getMessage());
@@ -162,9 +315,25 @@ public class ASP extends AbstractPlanner {
         final StateHeuristic hfun =
             StateHeuristic.getInstance(this.getHeuristic(), problem);
 
+        return this.astar(problem, hfun, this.getTimeout() * 1000L);
+    }
+
+    /**
+     * Custom A* search with a given heuristic instance and time budget.
+     *
+     * @param problem   the planning problem.
+     * @param hfun      the heuristic.
+     * @param timeoutMs the time budget in milliseconds.
+     * @return a plan if one is found, null otherwise.
+     */
+    private Plan astar(final Problem problem, final StateHeuristic hfun, final long timeoutMs) {
+
         // Initial state
         final State init = new State(problem.getInitialState());
 
+        // Zobrist keys used to hash the states of the nodes
+        final ZobristKeys keys = new ZobristKeys(problem.getFluents().size());
+
         // Closed list (already explored nodes)
         final Set<Node> closed = new HashSet<>();
 
@@ -179,20 +348,26 @@ public class ASP extends AbstractPlanner {
             }
         });
 
-        // Root node
-        final Node root = new Node(init);
-        root.setParent(null);
-        root.setAction(-1);
-        root.setCost(0.0);
-        root.setHeuristic(hfun.estimate(init, problem.getGoal()));
-        root.setDepth(0);
-
-        open.add(root);
+        // Restore the search from a snapshot, or start from the root node
+        if (this.restoreCheckpoint(problem, keys, open, closed)) {
+            LOGGER.info("* Resuming A* search from {} ({} open, {} closed nodes)",
+                this.getCheckpointFile(), open.size(), closed.size());
+        } else {
+            final Node root = new Node(init, keys);
+            root.setParent(null);
+            root.setAction(-1);
+            root.setCost(0.0);
+            root.setHeuristic(hfun.estimate(init, problem.getGoal()));
+            root.setDepth(0);
+
+            open.add(root);
+        }
 
         Plan plan = null;
 
-        final int timeoutMs = this.getTimeout() * 1000;
         final long startTime = System.currentTimeMillis();
+        final long intervalMs = this.getCheckpointInterval() * 1000L;
+        long lastCheckpoint = startTime;
 
         LOGGER.info("* Starting custom A* search");
 
@@ -200,6 +375,13 @@ public class ASP extends AbstractPlanner {
                 && plan == null
                 && (System.currentTimeMillis() - startTime) < timeoutMs) {
 
+            // Periodic snapshot of the search
+            if (this.getCheckpointFile() != null
+                    && System.currentTimeMillis() - lastCheckpoint >= intervalMs) {
+                this.saveCheckpoint(problem, open, closed);
+                lastCheckpoint = System.currentTimeMillis();
+            }
+
             // Get best node according to f
             final Node current = open.poll();
             closed.add(current);
@@ -215,15 +397,7 @@ public class ASP extends AbstractPlanner {
 
                     if (a.isApplicable(current)) {
                         // Child node
-                        final Node next = new Node(current);
-
-                        // Apply conditional effects
-                        final List<ConditionalEffect> effects = a.getConditionalEffects();
-                        for (ConditionalEffect ce : effects) {
-                            if (current.satisfy(ce.getCondition())) {
-                                next.apply(ce.getEffect());
-                            }
-                        }
+                        final Node next = new Node(current, a, keys);
 
                         final double g = current.getCost() + 1.0;
 
@@ -244,11 +418,352 @@ public class ASP extends AbstractPlanner {
             LOGGER.info("* Custom A* succeeded, plan found.");
         } else {
             LOGGER.info("* Custom A* failed or timeout reached.");
+            // Keep the work done so far for a later run
+            if (this.getCheckpointFile() != null && !open.isEmpty()) {
+                this.saveCheckpoint(problem, open, closed);
+            }
+        }
+
+        return plan;
+    }
+
+    // ============================================================
+    //  Enforced hill-climbing
+    // ============================================================
+
+    /**
+     * FF-style enforced hill-climbing. From the current state, a breadth-first
+     * search looks for the first state with a strictly better heuristic value
+     * and the search commits to it. When the breadth-first search exhausts a
+     * plateau, the remaining time is given to A*.
+     *
+     * @param problem the planning problem.
+     * @return a plan if one is found, null otherwise.
+     * @throws ProblemNotSupportedException if the problem is not supported.
+     */
+    public Plan enforcedHillClimbing(final Problem problem) throws ProblemNotSupportedException {
+
+        if (!this.isSupported(problem)) {
+            throw new ProblemNotSupportedException("Problem not supported");
+        }
+
+        final StateHeuristic hfun =
+            StateHeuristic.getInstance(this.getHeuristic(), problem);
+
+        final long timeoutMs = this.getTimeout() * 1000L;
+        final long startTime = System.currentTimeMillis();
+
+        // Positive add effects of each action, used by the helpful actions filter
+        final List<Action> actions = problem.getActions();
+        final BitVector[] adds = new BitVector[actions.size()];
+        for (int i = 0; i < adds.length; i++) {
+            adds[i] = new BitVector();
+            for (ConditionalEffect ce : actions.get(i).getConditionalEffects()) {
+                adds[i].or(ce.getEffect().getPositiveFluents());
+            }
+        }
+
+        final ZobristKeys keys = new ZobristKeys(problem.getFluents().size());
+
+        Node current = new Node(new State(problem.getInitialState()), keys);
+        current.setHeuristic(hfun.estimate(current, problem.getGoal()));
+
+        final SequentialPlan plan = new SequentialPlan();
+
+        LOGGER.info("* Starting enforced hill-climbing search");
+
+        while (!current.satisfy(problem.getGoal())) {
+            if (System.currentTimeMillis() - startTime >= timeoutMs) {
+                LOGGER.info("* Enforced hill-climbing failed: timeout reached.");
+                return null;
+            }
+
+            Node better = this.improve(problem, hfun, keys, current, adds,
+                this.isHelpfulActions(), startTime + timeoutMs);
+            if (better == null && this.isHelpfulActions()) {
+                // Helpful actions are only an approximation, retry with all actions
+                better = this.improve(problem, hfun, keys, current, adds, false, startTime + timeoutMs);
+            }
+            if (better == null) {
+                // The breadth-first search may have stopped on the deadline
+                final long remainingMs = timeoutMs - (System.currentTimeMillis() - startTime);
+                if (remainingMs <= 0) {
+                    LOGGER.info("* Enforced hill-climbing failed: timeout reached.");
+                    return null;
+                }
+                LOGGER.info("* Enforced hill-climbing failed, falling back to A*.");
+                return this.astar(problem, hfun, remainingMs);
+            }
+
+            // Append the actions leading from the current state to the better one
+            final List<Action> path = new ArrayList<>();
+            for (Node n = better; n.getParent() != null; n = n.getParent()) {
+                path.add(0, actions.get(n.getAction()));
+            }
+            for (Action a : path) {
+                plan.add(plan.size(), a);
+            }
+
+            // Drop the breadth-first tree, only the new state is kept
+            current = better;
+            current.setParent(null);
+            current.setDepth(0);
+        }
+
+        LOGGER.info("* Enforced hill-climbing succeeded, plan found.");
+        return plan;
+    }
+
+    /**
+     * Breadth-first search for a state with a strictly better heuristic value
+     * than the given state.
+     *
+     * @param problem  the planning problem.
+     * @param hfun     the heuristic.
+     * @param keys     the Zobrist keys of the fluents.
+     * @param start    the state to improve.
+     * @param adds     the positive effects of each action.
+     * @param filter   whether only helpful actions are expanded.
+     * @param deadline the time at which the search stops.
+     * @return the first better node found, or null if the plateau cannot be escaped.
+     */
+    private Node improve(final Problem problem, final StateHeuristic hfun, final ZobristKeys keys,
+                         final Node start, final BitVector[] adds, final boolean filter, final long deadline) {
+
+        final List<Action> actions = problem.getActions();
+        final Queue<Node> queue = new ArrayDeque<>();
+        final Set<Node> visited = new HashSet<>();
+        queue.add(start);
+        visited.add(start);
+
+        while (!queue.isEmpty() && System.currentTimeMillis() < deadline) {
+            final Node current = queue.poll();
+            BitVector helpful = filter
+                ? this.helpfulFluents(problem, current, adds) : null;
+            if (helpful != null && helpful.isEmpty()) {
+                helpful = null;
+            }
+
+            for (int i = 0; i < actions.size(); i++) {
+                final Action a = actions.get(i);
+                if (!a.isApplicable(current)
+                        || (helpful != null && !helpful.intersects(adds[i]))) {
+                    continue;
+                }
+
+                final Node next = new Node(current, a, keys);
+                if (!visited.add(next)) {
+                    continue;
+                }
+                next.setParent(current);
+                next.setAction(i);
+                next.setCost(current.getCost() + 1.0);
+                next.setDepth(current.getDepth() + 1);
+                next.setHeuristic(hfun.estimate(next, problem.getGoal()));
+
+                if (next.getHeuristic() < start.getHeuristic() || next.satisfy(problem.getGoal())) {
+                    return next;
+                }
+                // Dead ends are never worth expanding
+                if (next.getHeuristic() < Integer.MAX_VALUE) {
+                    queue.add(next);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Approximates the subgoals used by FF to select helpful actions: the
+     * unsatisfied goals and the missing preconditions of the actions that
+     * achieve them. An action is helpful if it adds one of these fluents.
+     *
+     * @param problem the planning problem.
+     * @param state   the current state.
+     * @param adds    the positive effects of each action.
+     * @return the fluents that helpful actions must add.
+     */
+    private BitVector helpfulFluents(final Problem problem, final State state, final BitVector[] adds) {
+        final BitVector goals = new BitVector(problem.getGoal().getPositiveFluents());
+        goals.andNot(state);
+
+        final BitVector subgoals = new BitVector(goals);
+        final List<Action> actions = problem.getActions();
+        for (int i = 0; i < adds.length; i++) {
+            if (adds[i].intersects(goals)) {
+                subgoals.or(actions.get(i).getPrecondition().getPositiveFluents());
+            }
+        }
+        subgoals.andNot(state);
+        return subgoals;
+    }
+
+    // ============================================================
+    //  Iterative-deepening A*
+    // ============================================================
+
+    /**
+     * Iterative-deepening A*. Each iteration is a depth-first search bounded
+     * by f = g + w*h on a single mutable state: actions are applied in place
+     * and undone on backtrack. A fixed-size transposition table caches the
+     * heuristic values and prunes states already reached at a lower cost in
+     * the same iteration, so memory only depends on the table size and the
+     * depth of the current path.
+     *
+     * @param problem the planning problem.
+     * @return a plan if one is found, null otherwise.
+     * @throws ProblemNotSupportedException if the problem is not supported.
+     */
+    public Plan idastar(final Problem problem) throws ProblemNotSupportedException {
+
+        if (!this.isSupported(problem)) {
+            throw new ProblemNotSupportedException("Problem not supported");
         }
 
+        final IdaSearch search = new IdaSearch(problem,
+            StateHeuristic.getInstance(this.getHeuristic(), problem),
+            new TranspositionTable(this.getTableSize()),
+            System.currentTimeMillis() + this.getTimeout() * 1000L);
+
+        final int h = search.hfun.estimate(search.state, problem.getGoal());
+        double bound = this.getHeuristicWeight() * h;
+
+        LOGGER.info("* Starting IDA* search ({} table slots)", search.table.size());
+
+        boolean found = false;
+        while (!found && !search.timeout && h < Integer.MAX_VALUE && bound < Double.POSITIVE_INFINITY) {
+            search.iteration++;
+            search.next = Double.POSITIVE_INFINITY;
+            search.table.store(search.state, search.hash, 0.0, h, search.iteration);
+            LOGGER.info("* IDA* iteration {} with bound {}", search.iteration, bound);
+            found = this.boundedSearch(search, 0.0, h, bound, 0);
+            bound = search.next;
+        }
+
+        if (!found) {
+            LOGGER.info("* IDA* failed or timeout reached.");
+            return null;
+        }
+
+        final SequentialPlan plan = new SequentialPlan();
+        for (int i = 0; i < search.depth; i++) {
+            plan.add(i, problem.getActions().get(search.path[i]));
+        }
+        LOGGER.info("* IDA* succeeded, plan found.");
         return plan;
     }
 
+    /**
+     * Bounded depth-first search of one IDA* iteration.
+     *
+     * @param search    the search context.
+     * @param g         the cost of the current state.
+     * @param h         the heuristic value of the current state.
+     * @param bound     the bound on f of the iteration.
+     * @param depth     the depth of the current state.
+     * @return true if a goal state was reached, the path is then in the context.
+     */
+    private boolean boundedSearch(final IdaSearch search, final double g, final int h,
+                            final double bound, final int depth) {
+
+        final double f = g + this.getHeuristicWeight() * h;
+        if (f > bound) {
+            search.next = Math.min(search.next, f);
+            return false;
+        }
+        final Problem problem = search.problem;
+        if (search.state.satisfy(problem.getGoal())) {
+            search.depth = depth;
+            return true;
+        }
+        if (System.currentTimeMillis() >= search.deadline) {
+            search.timeout = true;
+            return false;
+        }
+
+        final List<Action> actions = problem.getActions();
+        final double cost = g + 1.0;
+        for (int i = 0; i < actions.size(); i++) {
+            final Action a = actions.get(i);
+            if (!a.isApplicable(search.state)) {
+                continue;
+            }
+            search.apply(a, depth);
+
+            final int slot = search.table.probe(search.state, search.hash);
+            final boolean pruned = slot >= 0
+                && search.table.getIteration(slot) == search.iteration
+                && search.table.getCost(slot) <= cost;
+            if (!pruned) {
+                final int hn = slot >= 0
+                    ? search.table.getHeuristic(slot)
+                    : search.hfun.estimate(search.state, problem.getGoal());
+                search.table.store(search.state, search.hash, cost, hn, search.iteration);
+                if (hn < Integer.MAX_VALUE) {
+                    search.push(i, depth);
+                    if (this.boundedSearch(search, cost, hn, bound, depth + 1)) {
+                        return true;
+                    }
+                }
+            }
+
+            search.undo(depth);
+            if (search.timeout) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the checkpoint file if the search has to be resumed.
+     *
+     * @param problem the planning problem.
+     * @param keys    the Zobrist keys of the fluents.
+     * @param open    the open list to fill.
+     * @param closed  the closed list to fill.
+     * @return true if the search was restored, false if it starts from scratch.
+     */
+    private boolean restoreCheckpoint(final Problem problem, final ZobristKeys keys,
+                                      final PriorityQueue<Node> open, final Set<Node> closed) {
+        final File file = this.getCheckpointFile();
+        if (!this.isResume() || file == null) {
+            return false;
+        }
+        if (!file.exists()) {
+            LOGGER.info("* No checkpoint found at {}, starting from scratch", file);
+            return false;
+        }
+        try {
+            SearchCheckpoint.read(file, problem, keys, open, closed);
+            return true;
+        } catch (IOException e) {
+            LOGGER.error("Cannot read checkpoint: {}", e.getMessage());
+            open.clear();
+            closed.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the search to the checkpoint file.
+     *
+     * @param problem the planning problem.
+     * @param open    the open list.
+     * @param closed  the closed list.
+     */
+    private void saveCheckpoint(final Problem problem, final PriorityQueue<Node> open, final Set<Node> closed) {
+        final long begin = System.currentTimeMillis();
+        try {
+            SearchCheckpoint.write(this.getCheckpointFile(), problem, open, closed);
+            LOGGER.info("* Checkpoint saved to {} ({} open, {} closed nodes, {} ms)",
+                this.getCheckpointFile(), open.size(), closed.size(), System.currentTimeMillis() - begin);
+        } catch (IOException | RuntimeException e) {
+            // A failed snapshot must never stop the search
+            LOGGER.error("Cannot write checkpoint: {}", e.toString());
+        }
+    }
+
     /**
      * Extracts a plan from a goal node by backtracking to the root.
      */
@@ -266,6 +781,186 @@ public class ASP extends AbstractPlanner {
         return plan;
     }
 
+    // ============================================================
+    //  IDA* search context
+    // ============================================================
+
+    /**
+     * Mutable state of an IDA* search with the undo records of the current path.
+     */
+    private static final class IdaSearch {
+
+        /**
+         * The planning problem.
+         */
+        private final Problem problem;
+
+        /**
+         * The heuristic.
+         */
+        private final StateHeuristic hfun;
+
+        /**
+         * The state modified in place by the search.
+         */
+        private final State state;
+
+        /**
+         * Zobrist keys of the fluents.
+         */
+        private final ZobristKeys keys;
+
+        /**
+         * Zobrist hash of the current state.
+         */
+        private long hash;
+
+        /**
+         * Transposition table shared by all iterations.
+         */
+        private final TranspositionTable table;
+
+        /**
+         * Time at which the search stops.
+         */
+        private final long deadline;
+
+        /**
+         * Number of the current iteration.
+         */
+        private int iteration;
+
+        /**
+         * Smallest f value above the bound met during the current iteration.
+         */
+        private double next;
+
+        /**
+         * Whether the deadline was reached.
+         */
+        private boolean timeout;
+
+        /**
+         * Actions of the current path.
+         */
+        private int[] path = new int[64];
+
+        /**
+         * Length of the path once a goal is reached.
+         */
+        private int depth;
+
+        /**
+         * Fluents added by the action applied at each depth.
+         */
+        private final List<BitVector> added = new ArrayList<>();
+
+        /**
+         * Fluents removed by the action applied at each depth.
+         */
+        private final List<BitVector> removed = new ArrayList<>();
+
+        /**
+         * Hash of the state before the action applied at each depth.
+         */
+        private long[] hashes = new long[64];
+
+        /**
+         * Conditional effects fired by the action being applied.
+         */
+        private final List<ConditionalEffect> fired = new ArrayList<>();
+
+        /**
+         * Creates a search starting from the initial state of a problem.
+         *
+         * @param problem  the planning problem.
+         * @param hfun     the heuristic.
+         * @param table    the transposition table.
+         * @param deadline the time at which the search stops.
+         */
+        private IdaSearch(final Problem problem, final StateHeuristic hfun,
+                          final TranspositionTable table, final long deadline) {
+            this.problem = problem;
+            this.hfun = hfun;
+            this.state = new State(problem.getInitialState());
+            this.keys = new ZobristKeys(problem.getFluents().size());
+            this.hash = this.keys.hash(this.state);
+            this.table = table;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Applies an action in place and records what changed at this depth.
+         *
+         * @param action the action to apply.
+         * @param depth  the depth of the state the action is applied to.
+         */
+        private void apply(final Action action, final int depth) {
+            if (depth == this.added.size()) {
+                this.added.add(new BitVector());
+                this.removed.add(new BitVector());
+            }
+            if (depth == this.hashes.length) {
+                this.hashes = Arrays.copyOf(this.hashes, 2 * depth);
+            }
+            this.hashes[depth] = this.hash;
+            final BitVector add = this.added.get(depth);
+            final BitVector del = this.removed.get(depth);
+            add.clear();
+            del.clear();
+
+            // Conditions are evaluated on the state before the action
+            this.fired.clear();
+            for (ConditionalEffect ce : action.getConditionalEffects()) {
+                if (this.state.satisfy(ce.getCondition())) {
+                    this.fired.add(ce);
+                }
+            }
+            for (ConditionalEffect ce : this.fired) {
+                this.hash = this.keys.apply(this.state, this.hash, ce.getEffect(), add, del);
+            }
+        }
+
+        /**
+         * Restores the state as it was before the action applied at this depth.
+         *
+         * @param depth the depth of the state the action was applied to.
+         */
+        private void undo(final int depth) {
+            this.state.andNot(this.added.get(depth));
+            this.state.or(this.removed.get(depth));
+            this.hash = this.hashes[depth];
+        }
+
+        /**
+         * Records the action applied at this depth on the current path.
+         *
+         * @param action the index of the action.
+         * @param depth  the depth of the state the action is applied to.
+         */
+        private void push(final int action, final int depth) {
+            if (depth == this.path.length) {
+                this.path = Arrays.copyOf(this.path, 2 * depth);
+            }
+            this.path[depth] = action;
+        }
+    }
+
+    /**
+     * Checks the combination of command-line options and runs the planner.
+     *
+     * @return the exit code of the planner.
+     * @throws CommandLine.ParameterException if checkpoint options are used with another search than A*.
+     */
+    @Override
+    public Integer call() {
+        if (this.getSearch() != Search.ASTAR && (this.getCheckpointFile() != null || this.isResume())) {
+            throw new CommandLine.ParameterException(this.spec.commandLine(),
+                "--checkpoint and --resume are only supported with --search ASTAR");
+        }
+        return super.call();
+    }
+
     // ============================================================
     //  Main
     // ============================================================
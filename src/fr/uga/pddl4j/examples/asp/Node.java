@@ -1,6 +1,11 @@
 package fr.uga.pddl4j.examples.asp;
 
 import fr.uga.pddl4j.problem.State;
+import fr.uga.pddl4j.problem.operator.Action;
+import fr.uga.pddl4j.problem.operator.ConditionalEffect;
+
+import java.io.DataOutput;
+import java.io.IOException;
 
 /**
  * Node of the search tree for A*.
@@ -32,18 +37,86 @@ public final class Node extends State {
      */
     private int depth;
 
+    /**
+     * Zobrist hash of the state of this node, computed once at construction:
+     * the state of a node must not be modified afterwards.
+     */
+    private final long hashKey;
+
+    /**
+     * Number of the last checkpoint this node was written to (0 if none).
+     */
+    private int snapshot;
+
+    /**
+     * Number of the record of this node in that checkpoint.
+     */
+    private int record;
+
     /**
      * Creates a new node from a given state.
      *
      * @param state the state to wrap.
+     * @param keys  the Zobrist keys used to hash the state.
      */
-    public Node(final State state) {
+    public Node(final State state, final ZobristKeys keys) {
         super(state);
         this.parent = null;
         this.action = -1;
         this.cost = 0.0;
         this.heuristic = 0.0;
         this.depth = 0;
+        this.hashKey = keys.hash(this);
+    }
+
+    /**
+     * Creates a node from the words of a state bit-vector, without any
+     * intermediate copy. Used to restore checkpoints.
+     *
+     * @param words  the words of the state.
+     * @param length the number of words to read.
+     * @param keys   the Zobrist keys used to hash the state.
+     */
+    Node(final long[] words, final int length, final ZobristKeys keys) {
+        super();
+        // Highest bits first, so that the bit-vector is allocated once
+        for (int i = length - 1; i >= 0; i--) {
+            for (long w = words[i]; w != 0; w &= w - 1) {
+                this.set(i * Long.SIZE + Long.numberOfTrailingZeros(w));
+            }
+        }
+        this.parent = null;
+        this.action = -1;
+        this.cost = 0.0;
+        this.heuristic = 0.0;
+        this.depth = 0;
+        this.hashKey = keys.hash(this);
+    }
+
+    /**
+     * Creates the child of a node obtained by applying an action. The hash is
+     * updated from the fluents changed by the fired conditional effects only.
+     *
+     * @param node   the parent node.
+     * @param action the applied action.
+     * @param keys   the Zobrist keys of the fluents.
+     */
+    public Node(final Node node, final Action action, final ZobristKeys keys) {
+        super(node);
+        this.parent = null;
+        this.action = -1;
+        this.cost = 0.0;
+        this.heuristic = 0.0;
+        this.depth = 0;
+
+        // Apply conditional effects
+        long hash = node.hashKey;
+        for (ConditionalEffect ce : action.getConditionalEffects()) {
+            if (node.satisfy(ce.getCondition())) {
+                hash = keys.apply(this, hash, ce.getEffect());
+            }
+        }
+        this.hashKey = hash;
     }
 
     /**
@@ -58,6 +131,7 @@ public final class Node extends State {
         this.cost = node.cost;
         this.heuristic = node.heuristic;
         this.depth = node.depth;
+        this.hashKey = node.hashKey;
     }
 
     public Node getParent() {
@@ -100,6 +174,74 @@ public final class Node extends State {
         this.depth = depth;
     }
 
+    public long getHashKey() {
+        return hashKey;
+    }
+
+    /**
+     * Returns the Zobrist hash folded to an int, so that hash-based
+     * collections never rehash the whole bit-vector.
+     *
+     * @return the hash code of this node.
+     */
+    @Override
+    public int hashCode() {
+        return (int) (this.hashKey ^ (this.hashKey >>> 32));
+    }
+
+    /**
+     * Two nodes are equal if they hold the same state. The bit-vectors are
+     * only compared when the Zobrist hashes match.
+     *
+     * @param obj the object to compare.
+     * @return true if the states are equal.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof Node && ((Node) obj).hashKey != this.hashKey) {
+            return false;
+        }
+        return super.equals(obj);
+    }
+
+    /**
+     * Returns the record of this node in a checkpoint.
+     *
+     * @param snapshot the number of the checkpoint being written.
+     * @return the number of the record, or -1 if the node was not written yet.
+     */
+    int getRecord(final int snapshot) {
+        return this.snapshot == snapshot ? this.record : -1;
+    }
+
+    /**
+     * Sets the record of this node in a checkpoint.
+     *
+     * @param snapshot the number of the checkpoint being written.
+     * @param record   the number of the record.
+     */
+    void setRecord(final int snapshot, final int record) {
+        this.snapshot = snapshot;
+        this.record = record;
+    }
+
+    /**
+     * Writes the words of the state of this node without copying them.
+     *
+     * @param out the output to write to.
+     * @throws IOException if the words cannot be written.
+     */
+    void writeState(final DataOutput out) throws IOException {
+        final int size = (this.length() + Long.SIZE - 1) / Long.SIZE;
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(this.words[i]);
+        }
+    }
+
     /**
      * Returns f(n) = g(n) + w*h(n).
      *
@@ -0,0 +1,305 @@
+package fr.uga.pddl4j.examples.asp;
+
+import fr.uga.pddl4j.problem.Problem;
+import fr.uga.pddl4j.problem.State;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary snapshot of an A* search (open list, closed list and search tree).
+ *
+ * The file starts with a small header (magic number, format version, number
+ * of fluents and actions and a fingerprint of the initial state and goal of
+ * the problem) followed by one record per node:
+ * record number, parent record number, action index, cost, heuristic, depth, open/closed flags
+ * and the words of the state bit-vector. Records are numbered in the order
+ * they are written and end with a record number of -1.
+ * Parents are always written before their children, so that the tree can be
+ * rebuilt in a single pass.
+ */
+public final class SearchCheckpoint {
+
+    /**
+     * Magic number of a checkpoint file ("ASPC").
+     */
+    private static final int MAGIC = 0x41535043;
+
+    /**
+     * Version of the file format.
+     */
+    private static final int VERSION = 3;
+
+    /**
+     * Flag of a node belonging to the open list.
+     */
+    private static final byte OPEN = 1;
+
+    /**
+     * Flag of a node belonging to the closed list.
+     */
+    private static final byte CLOSED = 2;
+
+    /**
+     * Number of checkpoints written so far, used to tell the records of the
+     * current checkpoint from those left on the nodes by previous ones.
+     */
+    private static int snapshots = 0;
+
+    /**
+     * Utility class, not instantiable.
+     */
+    private SearchCheckpoint() {
+    }
+
+    /**
+     * Writes a snapshot of the search. The file is first written next to the
+     * target and then moved over it, so an interrupted write never corrupts
+     * the previous snapshot.
+     *
+     * @param file    the checkpoint file.
+     * @param problem the planning problem being solved.
+     * @param open    the nodes of the open list.
+     * @param closed  the closed list.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(final File file, final Problem problem,
+                             final Collection<Node> open, final Set<Node> closed) throws IOException {
+
+        final File tmp = new File(file.getPath() + ".tmp");
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new DeflaterOutputStream(new FileOutputStream(tmp), deflater), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(problem.getFluents().size());
+            out.writeInt(problem.getActions().size());
+            out.writeLong(fingerprint(problem));
+
+            final Writer writer = new Writer(out, closed, ++snapshots);
+            for (Node n : closed) {
+                writer.write(n, CLOSED);
+            }
+            for (Node n : open) {
+                writer.write(n, OPEN);
+            }
+            out.writeInt(-1);
+        } finally {
+            deflater.end();
+        }
+        Files.move(tmp.toPath(), file.toPath(),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot of the search. Nodes are built directly from the words
+     * read and added to the given lists, so that a snapshot can be resumed
+     * with about the heap that wrote it. The lists may be partially filled if
+     * an exception is thrown.
+     *
+     * @param file    the checkpoint file.
+     * @param problem the planning problem being solved.
+     * @param keys    the Zobrist keys used to hash the restored states.
+     * @param open    the open list to fill.
+     * @param closed  the closed list to fill.
+     * @throws IOException if the file cannot be read or was written for another problem.
+     *                     A file is rejected if its header does not match the problem or if its
+     *                     root node is not the initial state of the problem.
+     */
+    public static void read(final File file, final Problem problem, final ZobristKeys keys,
+                            final Collection<Node> open, final Collection<Node> closed) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new InflaterInputStream(new FileInputStream(file)), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a checkpoint file: " + file);
+            }
+            if (in.readInt() != problem.getFluents().size()
+                    || in.readInt() != problem.getActions().size()
+                    || in.readLong() != fingerprint(problem)) {
+                throw new IOException("Checkpoint " + file + " was written for another problem");
+            }
+            final State init = new State(problem.getInitialState());
+
+            // Records are numbered densely and parents come first, so each
+            // parent is found by its record number in an array
+            Node[] nodes = new Node[1024];
+            long[] words = new long[(problem.getFluents().size() + Long.SIZE - 1) / Long.SIZE];
+            int size = 0;
+            for (int record = in.readInt(); record >= 0; record = in.readInt()) {
+                final int parent = in.readInt();
+                if (record != size || parent >= record) {
+                    throw new IOException("Checkpoint " + file + " is corrupted");
+                }
+                final int action = in.readInt();
+                final double cost = in.readDouble();
+                final double heuristic = in.readDouble();
+                final int depth = in.readInt();
+                final byte flag = in.readByte();
+                final int length = in.readInt();
+                if (length > words.length) {
+                    words = new long[length];
+                }
+                for (int j = 0; j < length; j++) {
+                    words[j] = in.readLong();
+                }
+
+                final Node node = new Node(words, length, keys);
+                if (parent < 0 && !init.equals(node)) {
+                    throw new IOException("Checkpoint " + file + " does not start from the initial state");
+                }
+                node.setParent(parent < 0 ? null : nodes[parent]);
+                node.setAction(action);
+                node.setCost(cost);
+                node.setHeuristic(heuristic);
+                node.setDepth(depth);
+
+                if (size == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, 2 * size);
+                }
+                nodes[size++] = node;
+
+                if ((flag & OPEN) != 0) {
+                    open.add(node);
+                }
+                if ((flag & CLOSED) != 0) {
+                    closed.add(node);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes a fingerprint of the initial state and goal of a problem, so
+     * that two instances of a domain with the same objects are told apart.
+     *
+     * @param problem the planning problem.
+     * @return the fingerprint of the problem.
+     */
+    private static long fingerprint(final Problem problem) {
+        long h = fingerprint(0xCBF29CE484222325L, new State(problem.getInitialState()).toLongArray());
+        h = fingerprint(h, problem.getGoal().getPositiveFluents().toLongArray());
+        return fingerprint(h, problem.getGoal().getNegativeFluents().toLongArray());
+    }
+
+    /**
+     * Mixes the words of a bit-vector into a fingerprint.
+     *
+     * @param hash  the fingerprint so far.
+     * @param words the words of the bit-vector.
+     * @return the updated fingerprint.
+     */
+    private static long fingerprint(final long hash, final long[] words) {
+        long h = (hash ^ words.length) * 0x100000001B3L;
+        for (long word : words) {
+            h = (h ^ word) * 0x100000001B3L;
+            h ^= h >>> 29;
+        }
+        return h;
+    }
+
+    /**
+     * Numbers and writes the records of one checkpoint.
+     */
+    private static final class Writer {
+
+        /**
+         * The output to write to.
+         */
+        private final DataOutputStream out;
+
+        /**
+         * The closed list of the search.
+         */
+        private final Set<Node> closed;
+
+        /**
+         * The number of the checkpoint being written.
+         */
+        private final int snapshot;
+
+        /**
+         * The number of records written so far.
+         */
+        private int records;
+
+        /**
+         * Ancestors waiting to be written before a node.
+         */
+        private final Deque<Node> pending;
+
+        /**
+         * Creates a writer for one checkpoint.
+         *
+         * @param out      the output to write to.
+         * @param closed   the closed list of the search.
+         * @param snapshot the number of the checkpoint.
+         */
+        private Writer(final DataOutputStream out, final Set<Node> closed, final int snapshot) {
+            this.out = out;
+            this.closed = closed;
+            this.snapshot = snapshot;
+            this.records = 0;
+            this.pending = new ArrayDeque<>();
+        }
+
+        /**
+         * Writes a node unless it was already written, after its ancestors
+         * that were not written yet. An ancestor is flagged closed if its
+         * state is in the closed list: it may not be the very node of the
+         * closed list, but any node with that state does for duplicate checks.
+         *
+         * @param node the node to write.
+         * @param flag the lists the node belongs to.
+         * @throws IOException if a record cannot be written.
+         */
+        private void write(final Node node, final byte flag) throws IOException {
+            if (node.getRecord(this.snapshot) >= 0) {
+                return;
+            }
+            for (Node n = node.getParent(); n != null && n.getRecord(this.snapshot) < 0; n = n.getParent()) {
+                this.pending.push(n);
+            }
+            while (!this.pending.isEmpty()) {
+                final Node ancestor = this.pending.pop();
+                this.writeRecord(ancestor, this.closed.contains(ancestor) ? CLOSED : 0);
+            }
+            this.writeRecord(node, flag);
+        }
+
+        /**
+         * Numbers a node and writes its record. Its parent must already be written.
+         *
+         * @param node the node to write.
+         * @param flag the lists the node belongs to.
+         * @throws IOException if the record cannot be written.
+         */
+        private void writeRecord(final Node node, final byte flag) throws IOException {
+            final int record = this.records++;
+            node.setRecord(this.snapshot, record);
+            this.out.writeInt(record);
+            this.out.writeInt(node.getParent() == null ? -1 : node.getParent().getRecord(this.snapshot));
+            this.out.writeInt(node.getAction());
+            this.out.writeDouble(node.getCost());
+            this.out.writeDouble(node.getHeuristic());
+            this.out.writeInt(node.getDepth());
+            this.out.writeByte(flag);
+            node.writeState(this.out);
+        }
+    }
+}
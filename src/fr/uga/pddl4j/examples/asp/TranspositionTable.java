@@ -0,0 +1,132 @@
+package fr.uga.pddl4j.examples.asp;
+
+import fr.uga.pddl4j.util.BitVector;
+
+/**
+ * Fixed-size transposition table used by IDA*.
+ *
+ * Each slot keeps a copy of one state with the lowest cost at which it was
+ * reached during a given iteration and its heuristic value. A new state always
+ * replaces the previous occupant of its slot, so the memory used by the table
+ * never grows once every slot has been filled.
+ */
+public final class TranspositionTable {
+
+    /**
+     * Zobrist hashes of the stored states.
+     */
+    private final long[] keys;
+
+    /**
+     * States stored in the table (null for an empty slot).
+     */
+    private final BitVector[] states;
+
+    /**
+     * Cost from the root at which each state was reached.
+     */
+    private final double[] costs;
+
+    /**
+     * Heuristic value of each state.
+     */
+    private final int[] heuristics;
+
+    /**
+     * Iteration during which each state was reached.
+     */
+    private final int[] iterations;
+
+    /**
+     * Mask used to compute the slot of a state.
+     */
+    private final int mask;
+
+    /**
+     * Creates a new table. The size is rounded up to a power of two.
+     *
+     * @param size the minimum number of slots.
+     */
+    public TranspositionTable(final int size) {
+        if (size <= 0 || size > 1 << 30) {
+            throw new IllegalArgumentException("Table size must be in ]0, 2^30]");
+        }
+        int capacity = 1;
+        while (capacity < size) {
+            capacity <<= 1;
+        }
+        this.keys = new long[capacity];
+        this.states = new BitVector[capacity];
+        this.costs = new double[capacity];
+        this.heuristics = new int[capacity];
+        this.iterations = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Returns the slot holding a state.
+     *
+     * @param state the state to look for.
+     * @param key   the Zobrist hash of the state.
+     * @return the slot of the state, or -1 if the state is not in the table.
+     */
+    public int probe(final BitVector state, final long key) {
+        final int slot = this.slot(key);
+        final BitVector stored = this.states[slot];
+        // The bit-vectors are only compared when the hashes match
+        return stored != null && this.keys[slot] == key && stored.equals(state) ? slot : -1;
+    }
+
+    /**
+     * Stores a state, replacing the previous occupant of its slot.
+     *
+     * @param state     the state.
+     * @param key       the Zobrist hash of the state.
+     * @param cost      the cost from the root.
+     * @param heuristic the heuristic value of the state.
+     * @param iteration the current iteration.
+     */
+    public void store(final BitVector state, final long key, final double cost,
+                      final int heuristic, final int iteration) {
+        final int slot = this.slot(key);
+        BitVector stored = this.states[slot];
+        if (stored == null) {
+            stored = new BitVector(state);
+            this.states[slot] = stored;
+        } else if (this.keys[slot] != key || !stored.equals(state)) {
+            // Reuse the bit-vector of the evicted state
+            stored.clear();
+            stored.or(state);
+        }
+        this.keys[slot] = key;
+        this.costs[slot] = cost;
+        this.heuristics[slot] = heuristic;
+        this.iterations[slot] = iteration;
+    }
+
+    public double getCost(final int slot) {
+        return this.costs[slot];
+    }
+
+    public int getHeuristic(final int slot) {
+        return this.heuristics[slot];
+    }
+
+    public int getIteration(final int slot) {
+        return this.iterations[slot];
+    }
+
+    public int size() {
+        return this.states.length;
+    }
+
+    /**
+     * Computes the slot of a state.
+     *
+     * @param key the Zobrist hash of the state.
+     * @return the slot of the state.
+     */
+    private int slot(final long key) {
+        return (int) (key ^ (key >>> 32)) & this.mask;
+    }
+}
@@ -0,0 +1,124 @@
+package fr.uga.pddl4j.examples.asp;
+
+import fr.uga.pddl4j.problem.operator.Effect;
+import fr.uga.pddl4j.util.BitVector;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys of the fluents of a problem.
+ *
+ * The 64-bit hash of a state is the xor of the keys of its true fluents. When
+ * an effect is applied, only the keys of the fluents that actually change are
+ * xored into the hash of the parent state, so the hash of a child state costs
+ * as much as its effects instead of a pass over the whole bit-vector.
+ */
+public final class ZobristKeys {
+
+    /**
+     * Seed of the keys, fixed so that hashes are the same from one run to another.
+     */
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Random key of each fluent.
+     */
+    private final long[] keys;
+
+    /**
+     * Creates the keys of a problem.
+     *
+     * @param fluents the number of fluents of the problem.
+     */
+    public ZobristKeys(final int fluents) {
+        final SplittableRandom rng = new SplittableRandom(SEED);
+        this.keys = new long[fluents];
+        for (int i = 0; i < fluents; i++) {
+            this.keys[i] = rng.nextLong();
+        }
+    }
+
+    /**
+     * Returns the key of a fluent.
+     *
+     * @param fluent the index of the fluent.
+     * @return the key of the fluent.
+     */
+    public long get(final int fluent) {
+        return this.keys[fluent];
+    }
+
+    /**
+     * Computes the hash of a state from scratch.
+     *
+     * @param state the state.
+     * @return the hash of the state.
+     */
+    public long hash(final BitVector state) {
+        long hash = 0L;
+        for (int p = state.nextSetBit(0); p >= 0; p = state.nextSetBit(p + 1)) {
+            hash ^= this.keys[p];
+        }
+        return hash;
+    }
+
+    /**
+     * Applies an effect to a state in place, as State.apply does (negative
+     * fluents first, then positive ones), and updates its hash.
+     *
+     * @param state  the state to modify.
+     * @param hash   the hash of the state before the effect.
+     * @param effect the effect to apply.
+     * @return the hash of the state after the effect.
+     */
+    public long apply(final BitVector state, final long hash, final Effect effect) {
+        return this.apply(state, hash, effect, null, null);
+    }
+
+    /**
+     * Applies an effect to a state in place, updates its hash and records the
+     * fluents that actually changed. A fluent added then removed again (or the
+     * reverse) by successive effects is dropped from the records, so that
+     * removing the added fluents and adding the removed ones undoes them all.
+     *
+     * @param state   the state to modify.
+     * @param hash    the hash of the state before the effect.
+     * @param effect  the effect to apply.
+     * @param added   the fluents added so far, updated (null with removed to record nothing).
+     * @param removed the fluents removed so far, updated (null with added to record nothing).
+     * @return the hash of the state after the effect.
+     */
+    public long apply(final BitVector state, final long hash, final Effect effect,
+                      final BitVector added, final BitVector removed) {
+        long h = hash;
+        final BitVector neg = effect.getNegativeFluents();
+        for (int p = neg.nextSetBit(0); p >= 0; p = neg.nextSetBit(p + 1)) {
+            if (state.get(p)) {
+                state.clear(p);
+                h ^= this.keys[p];
+                if (added != null) {
+                    if (added.get(p)) {
+                        added.clear(p);
+                    } else {
+                        removed.set(p);
+                    }
+                }
+            }
+        }
+        final BitVector pos = effect.getPositiveFluents();
+        for (int p = pos.nextSetBit(0); p >= 0; p = pos.nextSetBit(p + 1)) {
+            if (!state.get(p)) {
+                state.set(p);
+                h ^= this.keys[p];
+                if (removed != null) {
+                    if (removed.get(p)) {
+                        removed.clear(p);
+                    } else {
+                        added.set(p);
+                    }
+                }
+            }
+        }
+        return h;
+    }
+}